@@ -7,6 +7,7 @@ import java.io.File;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.stream.IntStream;
 
 /**
  * This class takes user image, reads it and defines the number of silhouettes
@@ -23,6 +24,11 @@ import java.util.HashMap;
  * as silhouettes (e.g. posterized pixels, artifacts and small insignificant fuzzy
  * objects etc). It is advised to keep this parameter at 0.05 % (== 0.0005) level to get
  * correct results.
+ * --- ADAPTIVE_BACKGROUND
+ * If this parameter is set to true, the program does not compare pixels with one global
+ * background color but estimates the background color for each tile of the image (in
+ * parallel), interpolates it between the tiles and compares each pixel with its local
+ * background color. This mode is advised for unevenly lit images.
  * <p>
  * I took part of ideas from external resources:
  * - The ArrayDeque concept
@@ -59,6 +65,19 @@ public class Assignment13Part1 {
      */
     static final int NUMBER_OF_LINES = 3;
 
+    /**
+     * Indicates whether the program shall use a local background color for
+     * each pixel instead of one global background color. Is useful for images
+     * with gradient or unevenly lit backgrounds.
+     */
+    static final boolean ADAPTIVE_BACKGROUND = false;
+
+    /**
+     * The width and the height (in pixels) of a tile the program uses to
+     * estimate the local background color in the adaptive mode.
+     */
+    static final int TILE_SIZE = 32;
+
     /**
      * The image the user provided to the program.
      */
@@ -74,6 +93,13 @@ public class Assignment13Part1 {
     static int bgColorBlue;
     static int bgColorAlpha;
 
+    /**
+     * A two-dimensional array consisting of the local background colors
+     * of each pixel packed into ARGB integers. Is used only in the adaptive
+     * mode and has the same dimensions as the imgArray.
+     */
+    static int[][] localBgArray;
+
     /**
      * A two-dimensional array consisting of the pixels` colors
      * of the user provided image. Each array cell represents a
@@ -131,6 +157,10 @@ public class Assignment13Part1 {
             bgColor = getBackgroundColor();          // Defines background color
             setBgColorComponents();                  // Saves background color`s RGBA-components
             writeImageToArray();                     // Creates an array consisting of image pixel colors
+            if (ADAPTIVE_BACKGROUND) {
+                estimateLocalBackground();           // Defines local background color of each pixel
+                fillPixelsWithLocalBGColor();        // Fills array`s edges with local background color
+            }
             visited = fillBooleanArray();            // Fills visited-array to indicate visited pixels
             pixelsInQueue = fillBooleanArray();      // Fills pixelsInQueue-array to indicate pixels in queue
             inspectImagePixels();                    // Inspects all image pixels to find silhouettes
@@ -198,6 +228,396 @@ public class Assignment13Part1 {
         }
     }
 
+    /**
+     * Fills the very top, bottom, left and right edges of the array with
+     * the local background color of these pixels. Is used in the adaptive
+     * mode instead of the global background color.
+     */
+    private static void fillPixelsWithLocalBGColor() {
+        // Fills the left and the right edges
+        for (int y = 0; y < imgArray.length; y++) {
+            imgArray[y][0] = new Color(localBgArray[y][0], true);
+            imgArray[y][imgArray[0].length - 1] = new Color(localBgArray[y][imgArray[0].length - 1], true);
+        }
+        // Fills the top and the bottom edges
+        for (int x = 0; x < imgArray[0].length; x++) {
+            imgArray[0][x] = new Color(localBgArray[0][x], true);
+            imgArray[imgArray.length - 1][x] = new Color(localBgArray[imgArray.length - 1][x], true);
+        }
+    }
+
+    /**
+     * Defines the local background color of each pixel of the image.
+     * Firstly, defines the dominant color of each tile and whether it
+     * contains silhouettes` edges in parallel, then finds background tiles,
+     * replaces tiles covered by silhouettes with colors predicted from their
+     * neighbours and finally interpolates colors between the tiles` centers.
+     */
+    private static void estimateLocalBackground() {
+        int tileRows = (image.getHeight() + TILE_SIZE - 1) / TILE_SIZE;
+        int tileColumns = (image.getWidth() + TILE_SIZE - 1) / TILE_SIZE;
+        Color[][] tileColors = new Color[tileRows][tileColumns];
+        boolean[][] edgeTiles = new boolean[tileRows][tileColumns];
+
+        // Each tile is inspected by its own task, so tiles are processed in parallel
+        IntStream.range(0, tileRows * tileColumns).parallel().forEach(tile -> {
+            int tileRow = tile / tileColumns;
+            int tileColumn = tile % tileColumns;
+            tileColors[tileRow][tileColumn] = getTileBackgroundColor(tileRow, tileColumn);
+            edgeTiles[tileRow][tileColumn] = hasSilhouetteEdge(tileRow, tileColumn);
+        });
+
+        findBackgroundTiles(tileColors, edgeTiles);
+        fillCoveredTiles(tileColors);
+
+        localBgArray = new int[imgArray.length][imgArray[0].length];
+        // Each array row is interpolated by its own task
+        IntStream.range(0, imgArray.length).parallel().forEach(x -> {
+            for (int y = 0; y < imgArray[0].length; y++) {
+                localBgArray[x][y] = interpolateTileColors(tileColors, x - 1, y - 1);
+            }
+        });
+    }
+
+    /**
+     * Defines the dominant color of a particular tile as the median value
+     * of each of its four channels. Unlike the most frequent exact color
+     * used for the image edges, the median is not affected by noise and
+     * compression artifacts, which make exact colors rarely repeat within
+     * one tile.
+     *
+     * @param tileRow    is the row of the tile.
+     * @param tileColumn is the column of the tile.
+     * @return the tile dominant color.
+     */
+    private static Color getTileBackgroundColor(int tileRow, int tileColumn) {
+        // Number of pixels with each value of the red, green, blue and alpha channels
+        int[][] channelHistograms = new int[4][256];
+        int lastRow = Math.min((tileRow + 1) * TILE_SIZE, image.getHeight());
+        int lastColumn = Math.min((tileColumn + 1) * TILE_SIZE, image.getWidth());
+
+        for (int i = tileRow * TILE_SIZE; i < lastRow; i++) {
+            for (int j = tileColumn * TILE_SIZE; j < lastColumn; j++) {
+                Color color = imgArray[i + 1][j + 1];
+                channelHistograms[0][color.getRed()]++;
+                channelHistograms[1][color.getGreen()]++;
+                channelHistograms[2][color.getBlue()]++;
+                channelHistograms[3][color.getAlpha()]++;
+            }
+        }
+        int numOfPixels = (lastRow - tileRow * TILE_SIZE) * (lastColumn - tileColumn * TILE_SIZE);
+        return new Color(findMedian(channelHistograms[0], numOfPixels),
+                findMedian(channelHistograms[1], numOfPixels),
+                findMedian(channelHistograms[2], numOfPixels),
+                findMedian(channelHistograms[3], numOfPixels));
+    }
+
+    /**
+     * Finds the median channel value using the number of pixels
+     * with each channel value.
+     *
+     * @param histogram   is the number of pixels with each channel value.
+     * @param numOfPixels is the total number of pixels.
+     * @return the median channel value.
+     */
+    private static int findMedian(int[] histogram, int numOfPixels) {
+        int pixelsCounted = 0;
+
+        for (int value = 0; value < histogram.length; value++) {
+            pixelsCounted += histogram[value];
+            if (pixelsCounted * 2 >= numOfPixels) {
+                return value;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    /**
+     * Says whether a particular tile contains an edge of a silhouette, i.e.
+     * whether any pixel of the tile is not similar to its right or bottom
+     * neighbour pixel. A smooth background gradient changes only slightly
+     * between two neighbour pixels, so it is not deemed to be an edge however
+     * steep it is over the whole tile.
+     *
+     * @param tileRow    is the row of the tile.
+     * @param tileColumn is the column of the tile.
+     * @return true if the tile contains an edge of a silhouette.
+     */
+    private static boolean hasSilhouetteEdge(int tileRow, int tileColumn) {
+        int lastRow = Math.min((tileRow + 1) * TILE_SIZE, image.getHeight());
+        int lastColumn = Math.min((tileColumn + 1) * TILE_SIZE, image.getWidth());
+
+        for (int i = tileRow * TILE_SIZE; i < lastRow; i++) {
+            for (int j = tileColumn * TILE_SIZE; j < lastColumn; j++) {
+                Color color = imgArray[i + 1][j + 1];
+                if ((j + 1 < image.getWidth() && areNotSimilar(color, imgArray[i + 1][j + 2]))
+                        || (i + 1 < image.getHeight() && areNotSimilar(color, imgArray[i + 2][j + 1]))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Says whether a particular tile contains at least one pixel similar
+     * to the global background color.
+     *
+     * @param tileRow    is the row of the tile.
+     * @param tileColumn is the column of the tile.
+     * @return true if the tile contains a pixel of the global background color.
+     */
+    private static boolean containsBackgroundColor(int tileRow, int tileColumn) {
+        int lastRow = Math.min((tileRow + 1) * TILE_SIZE, image.getHeight());
+        int lastColumn = Math.min((tileColumn + 1) * TILE_SIZE, image.getWidth());
+
+        for (int i = tileRow * TILE_SIZE; i < lastRow; i++) {
+            for (int j = tileColumn * TILE_SIZE; j < lastColumn; j++) {
+                if (!isNotSimilarToBackground(imgArray[i + 1][j + 1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Defines which tiles show the background using breadth-first search.
+     * As the image edges are deemed to show the background, the search starts
+     * from the tiles on the image edges which contain the global background
+     * color and no silhouettes` edges. Then it goes on to neighbour tiles
+     * without silhouettes` edges. Thus the search follows background gradients
+     * of any steepness but can not get inside silhouettes, as each silhouette
+     * is surrounded by tiles with its edges. The colors of all other tiles
+     * are replaced with null.
+     *
+     * @param tileColors is the array of tiles` dominant colors.
+     * @param edgeTiles  is the array indicating tiles with silhouettes` edges.
+     */
+    private static void findBackgroundTiles(Color[][] tileColors, boolean[][] edgeTiles) {
+        boolean[][] backgroundTiles = new boolean[tileColors.length][tileColors[0].length];
+        ArrayDeque<int[]> tileQueue = new ArrayDeque<>();
+
+        // Adds tiles on the image edges to the queue
+        for (int i = 0; i < tileColors.length; i++) {
+            for (int j = 0; j < tileColors[0].length; j++) {
+                boolean isEdgeOfImage = i == 0 || j == 0
+                        || i == tileColors.length - 1 || j == tileColors[0].length - 1;
+                if (isEdgeOfImage && !edgeTiles[i][j] && containsBackgroundColor(i, j)) {
+                    backgroundTiles[i][j] = true;
+                    tileQueue.addLast(new int[]{i, j});
+                }
+            }
+        }
+
+        while (tileQueue.size() > 0) {
+            int[] tile = tileQueue.removeFirst();
+            int[][] neighbours = {{tile[0] + 1, tile[1]}, {tile[0] - 1, tile[1]},
+                    {tile[0], tile[1] + 1}, {tile[0], tile[1] - 1}};
+
+            for (int[] neighbour : neighbours) {
+                if (neighbour[0] >= 0 && neighbour[0] < tileColors.length
+                        && neighbour[1] >= 0 && neighbour[1] < tileColors[0].length
+                        && !backgroundTiles[neighbour[0]][neighbour[1]]
+                        && !edgeTiles[neighbour[0]][neighbour[1]]) {
+                    backgroundTiles[neighbour[0]][neighbour[1]] = true;
+                    tileQueue.addLast(neighbour);
+                }
+            }
+        }
+
+        // Marks tiles covered by silhouettes
+        for (int i = 0; i < tileColors.length; i++) {
+            for (int j = 0; j < tileColors[0].length; j++) {
+                if (!backgroundTiles[i][j]) {
+                    tileColors[i][j] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the colors of the tiles covered by silhouettes (null values)
+     * with the colors predicted from their neighbour tiles. Repeats until all
+     * tiles get their colors. If no tile has a color, all tiles get the
+     * global background color.
+     *
+     * @param tileColors is the array of tiles` background colors.
+     */
+    private static void fillCoveredTiles(Color[][] tileColors) {
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+            Color[][] filledColors = new Color[tileColors.length][];
+            for (int i = 0; i < tileColors.length; i++) {
+                filledColors[i] = tileColors[i].clone();
+                for (int j = 0; j < tileColors[0].length; j++) {
+                    if (tileColors[i][j] == null) {
+                        filledColors[i][j] = predictTileColor(tileColors, i, j);
+                        changed |= filledColors[i][j] != null;
+                    }
+                }
+            }
+            for (int i = 0; i < tileColors.length; i++) {
+                tileColors[i] = filledColors[i];
+            }
+        }
+
+        // Uses global background color if none of the tiles has a color
+        for (int i = 0; i < tileColors.length; i++) {
+            for (int j = 0; j < tileColors[0].length; j++) {
+                if (tileColors[i][j] == null) {
+                    tileColors[i][j] = bgColor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Predicts the background color of a particular tile from its four
+     * neighbour tiles. If there are two known tiles in a row in some direction,
+     * the color is extrapolated linearly from them, so background gradients are
+     * continued under silhouettes. Otherwise the average color of the known
+     * neighbour tiles is used.
+     *
+     * @param tileColors is the array of tiles` background colors.
+     * @param tileRow    is the row of the tile.
+     * @param tileColumn is the column of the tile.
+     * @return the predicted color or null if none of the neighbour tiles has a color.
+     */
+    private static Color predictTileColor(Color[][] tileColors, int tileRow, int tileColumn) {
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        // Sums of red, green, blue and alpha channels values of the extrapolated colors
+        int[] extrapolatedSum = new int[4];
+        int numOfExtrapolations = 0;
+        // Sums of red, green, blue and alpha channels values of the neighbour tiles
+        int[] neighboursSum = new int[4];
+        int numOfNeighbours = 0;
+
+        for (int[] direction : directions) {
+            Color near = getTileColor(tileColors, tileRow + direction[0], tileColumn + direction[1]);
+            if (near == null) {
+                continue;
+            }
+            Color far = getTileColor(tileColors, tileRow + 2 * direction[0], tileColumn + 2 * direction[1]);
+            int[] nearChannels = {near.getRed(), near.getGreen(), near.getBlue(), near.getAlpha()};
+            for (int k = 0; k < 4; k++) {
+                neighboursSum[k] += nearChannels[k];
+            }
+            numOfNeighbours++;
+            if (far != null) {
+                int[] farChannels = {far.getRed(), far.getGreen(), far.getBlue(), far.getAlpha()};
+                for (int k = 0; k < 4; k++) {
+                    extrapolatedSum[k] += 2 * nearChannels[k] - farChannels[k];
+                }
+                numOfExtrapolations++;
+            }
+        }
+        if (numOfExtrapolations > 0) {
+            return getAverageColor(extrapolatedSum, numOfExtrapolations);
+        }
+        if (numOfNeighbours > 0) {
+            return getAverageColor(neighboursSum, numOfNeighbours);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the color of a particular tile.
+     *
+     * @param tileColors is the array of tiles` background colors.
+     * @param tileRow    is the row of the tile.
+     * @param tileColumn is the column of the tile.
+     * @return the tile color or null if the tile does not exist or has no color.
+     */
+    private static Color getTileColor(Color[][] tileColors, int tileRow, int tileColumn) {
+        if (tileRow < 0 || tileRow >= tileColors.length || tileColumn < 0 || tileColumn >= tileColors[0].length) {
+            return null;
+        }
+        return tileColors[tileRow][tileColumn];
+    }
+
+    /**
+     * Creates the color with channels values equal to the average values
+     * limited to the range from 0 to 255.
+     *
+     * @param channelsSum is the sums of red, green, blue and alpha channels values.
+     * @param numOfColors is the number of summed colors.
+     * @return the average color.
+     */
+    private static Color getAverageColor(int[] channelsSum, int numOfColors) {
+        int[] channels = new int[4];
+        for (int k = 0; k < 4; k++) {
+            channels[k] = Math.min(Math.max(Math.round((float) channelsSum[k] / numOfColors), 0), 255);
+        }
+        return new Color(channels[0], channels[1], channels[2], channels[3]);
+    }
+
+    /**
+     * Calculates the local background color of a particular pixel by bilinear
+     * interpolation between the colors of the four nearest tiles` centers.
+     * Pixels outside the image get the color of the nearest image pixel.
+     *
+     * @param tileColors is the array of tiles` background colors.
+     * @param row        is the row of the pixel in the user image.
+     * @param column     is the column of the pixel in the user image.
+     * @return the local background color of the pixel packed into an ARGB integer.
+     */
+    private static int interpolateTileColors(Color[][] tileColors, int row, int column) {
+        // Position of the pixel measured in tiles relative to the first tile center
+        double tileRow = getTilePosition(row, image.getHeight(), tileColors.length);
+        double tileColumn = getTilePosition(column, image.getWidth(), tileColors[0].length);
+
+        int top = (int) tileRow;
+        int left = (int) tileColumn;
+        int bottom = Math.min(top + 1, tileColors.length - 1);
+        int right = Math.min(left + 1, tileColors[0].length - 1);
+        double dy = tileRow - top;
+        double dx = tileColumn - left;
+
+        Color topLeft = tileColors[top][left];
+        Color topRight = tileColors[top][right];
+        Color bottomLeft = tileColors[bottom][left];
+        Color bottomRight = tileColors[bottom][right];
+
+        return (interpolate(topLeft.getAlpha(), topRight.getAlpha(), bottomLeft.getAlpha(), bottomRight.getAlpha(), dx, dy) << 24)
+                | (interpolate(topLeft.getRed(), topRight.getRed(), bottomLeft.getRed(), bottomRight.getRed(), dx, dy) << 16)
+                | (interpolate(topLeft.getGreen(), topRight.getGreen(), bottomLeft.getGreen(), bottomRight.getGreen(), dx, dy) << 8)
+                | interpolate(topLeft.getBlue(), topRight.getBlue(), bottomLeft.getBlue(), bottomRight.getBlue(), dx, dy);
+    }
+
+    /**
+     * Converts the pixel coordinate to the position between the tiles` centers.
+     *
+     * @param coordinate is the pixel coordinate in the user image.
+     * @param imageSize  is the image width or height.
+     * @param numOfTiles is the number of tiles along this coordinate.
+     * @return the position measured in tiles, from 0 to {numOfTiles - 1}.
+     */
+    private static double getTilePosition(int coordinate, int imageSize, int numOfTiles) {
+        int pixel = Math.min(Math.max(coordinate, 0), imageSize - 1);
+        double position = (pixel - TILE_SIZE / 2.0) / TILE_SIZE;
+        return Math.min(Math.max(position, 0), numOfTiles - 1);
+    }
+
+    /**
+     * Bilinear interpolation of one color channel between four tiles.
+     *
+     * @param topLeft     is the channel value of the top left tile.
+     * @param topRight    is the channel value of the top right tile.
+     * @param bottomLeft  is the channel value of the bottom left tile.
+     * @param bottomRight is the channel value of the bottom right tile.
+     * @param dx          is the horizontal distance from the left tile (0 to 1).
+     * @param dy          is the vertical distance from the top tile (0 to 1).
+     * @return the interpolated channel value.
+     */
+    private static int interpolate(int topLeft, int topRight, int bottomLeft, int bottomRight, double dx, double dy) {
+        double top = topLeft + (topRight - topLeft) * dx;
+        double bottom = bottomLeft + (bottomRight - bottomLeft) * dx;
+        return (int) Math.round(top + (bottom - top) * dy);
+    }
+
     /**
      * Iterates through each image pixel and looks for pixels of non-background color.
      * If found any, the program uses breadth-first search algorithm to detect all such
@@ -208,9 +628,8 @@ public class Assignment13Part1 {
         for (int x = 0; x < imgArray.length; x++) {
             for (int y = 0; y < imgArray[0].length; y++) { // Iterates through each pixel of the image
                 if (!visited[x][y]) { // Inspects a particular pixel only if it has not been inspected yet
-                    Color currentColor = imgArray[x][y];
                     // If it is not a background pixel, deems it as a silhouette pixel and finds other silhouette pixels
-                    if (isNotSimilarToBackground(currentColor)) {
+                    if (isNotSimilarToBackground(x, y)) {
                         // Creates new silhouette object if found first non-background pixel
                         Silhouette silhouette = new Silhouette();
                         silhouettes.add(silhouette); // Adds this silhouette to the array with all silhouettes
@@ -495,6 +914,39 @@ public class Assignment13Part1 {
      * @return true if both colors are not similar.
      */
     private static boolean isNotSimilarToBackground(Color color) {
+        double colorEquivalenceCoefficient = getColorEquivalenceCoefficient(color,
+                bgColorRed, bgColorGreen, bgColorBlue, bgColorAlpha);
+
+        // Returns true if color equivalence coefficient is more than certain threshold
+        return !(colorEquivalenceCoefficient > COLORS_SIMILARITY_THRESHOLD);
+    }
+
+    /**
+     * Says whether two colors are not similar using the same
+     * {COLORS_SIMILARITY_THRESHOLD} as for the background color.
+     *
+     * @param color      is the first color.
+     * @param otherColor is the second color.
+     * @return true if both colors are not similar.
+     */
+    private static boolean areNotSimilar(Color color, Color otherColor) {
+        return !(getColorEquivalenceCoefficient(color, otherColor.getRed(), otherColor.getGreen(),
+                otherColor.getBlue(), otherColor.getAlpha()) > COLORS_SIMILARITY_THRESHOLD);
+    }
+
+    /**
+     * Calculates the color equivalence coefficient between the given color
+     * and the background color defined by its four channels values.
+     *
+     * @param color   is the color that is compared with the background color.
+     * @param bgRed   is the red channel value of the background color.
+     * @param bgGreen is the green channel value of the background color.
+     * @param bgBlue  is the blue channel value of the background color.
+     * @param bgAlpha is the alpha channel value of the background color.
+     * @return color equivalence coefficient from 0 (totally different) to 1 (totally equal).
+     */
+    private static double getColorEquivalenceCoefficient(Color color, int bgRed, int bgGreen,
+                                                         int bgBlue, int bgAlpha) {
         // Values of red, green, blue and alpha channels of the pixel compared to the background color
         int pixelColorRed = color.getRed();
         int pixelColorGreen = color.getGreen();
@@ -502,17 +954,13 @@ public class Assignment13Part1 {
         int pixelColorAlpha = color.getAlpha();
 
         // Calculates the difference between two colors by calculating the difference between all four channels
-        double colorDifference = Math.pow(Math.pow(bgColorRed - pixelColorRed, 2)
-                + Math.pow(bgColorGreen - pixelColorGreen, 2)
-                + Math.pow(bgColorBlue - pixelColorBlue, 2)
-                + Math.pow(bgColorAlpha - pixelColorAlpha, 2), (0.5));
+        double colorDifference = Math.pow(Math.pow(bgRed - pixelColorRed, 2)
+                + Math.pow(bgGreen - pixelColorGreen, 2)
+                + Math.pow(bgBlue - pixelColorBlue, 2)
+                + Math.pow(bgAlpha - pixelColorAlpha, 2), (0.5));
 
         // Calculates color equivalence coefficient between background and the current colors
-        double colorEquivalenceCoefficient = (COLORS_ARE_TOTALLY_EQUIVALENT - colorDifference)
-                / COLORS_ARE_TOTALLY_EQUIVALENT;
-
-        // Returns true if color equivalence coefficient is more than certain threshold
-        return !(colorEquivalenceCoefficient > COLORS_SIMILARITY_THRESHOLD);
+        return (COLORS_ARE_TOTALLY_EQUIVALENT - colorDifference) / COLORS_ARE_TOTALLY_EQUIVALENT;
     }
 
     /**
@@ -521,7 +969,8 @@ public class Assignment13Part1 {
      * If the compared color is more than {COLORS_SIMILARITY_THRESHOLD} %
      * similar to the background color, it is deemed to be a background
      * color and not a silhouettes color. If less - it is deemed to be
-     * a silhouettes color.
+     * a silhouettes color. In the adaptive mode the color is compared
+     * with the local background color of this pixel.
      *
      * @param x is the x-coordinate of the color to be compared with the background color.
      * @param y is the y-coordinate of the color to be compared with the background color.
@@ -529,6 +978,11 @@ public class Assignment13Part1 {
      */
     private static boolean isNotSimilarToBackground(int x, int y) {
         Color color = imgArray[x][y];
+        if (ADAPTIVE_BACKGROUND) {
+            int localBgColor = localBgArray[x][y];
+            return !(getColorEquivalenceCoefficient(color, (localBgColor >> 16) & 0xFF, (localBgColor >> 8) & 0xFF,
+                    localBgColor & 0xFF, (localBgColor >>> 24)) > COLORS_SIMILARITY_THRESHOLD);
+        }
         return isNotSimilarToBackground(color);
     }
 